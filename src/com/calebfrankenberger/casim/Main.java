@@ -4,8 +4,12 @@ import com.calebfrankenberger.casim.model.CellularAutomata;
 import com.calebfrankenberger.casim.model.CellularAutomata1D;
 import com.calebfrankenberger.casim.model.CellularAutomata2D;
 import com.calebfrankenberger.casim.model.CellularAutomataCave;
+import com.calebfrankenberger.casim.model.CellularAutomataRange;
+import com.calebfrankenberger.casim.model.CellularAutomataRule;
+import com.calebfrankenberger.casim.model.RuleDefinition;
 
 import javax.swing.*;
+import java.util.Random;
 import java.util.Scanner;
 
 public class Main {
@@ -22,7 +26,11 @@ public class Main {
         Scanner scanner = new Scanner(System.in);
         String type = scanner.next();
 
+        // Random models start from this seed. Pass a seed as the first argument to replay a run
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : new Random().nextLong();
+
         CellularAutomata cellularAutomata = null;
+        boolean seeded = false; // Whether the chosen model was created from the seed
 
         // Validate user input
         switch(type) {
@@ -31,15 +39,28 @@ public class Main {
                 cellularAutomata = new CellularAutomata1D(width, height, cellSize, ruleset);
                 break;
             case "two-dimensional":
-                 cellularAutomata = new CellularAutomata2D(width, height, cellSize);
+                 cellularAutomata = new CellularAutomata2D(width, height, cellSize, seed, 0.5);
+                 seeded = true;
                  break;
             case "cave":
-                cellularAutomata = new CellularAutomataCave(width, height, cellSize);
+                cellularAutomata = new CellularAutomataCave(width, height, cellSize, seed, 0.5);
+                seeded = true;
+                break;
+            case "range-cave":
+                cellularAutomata = new CellularAutomataRange(width, height, cellSize, 4, false, seed);
+                seeded = true;
+                break;
+            case "brians-brain":
+                cellularAutomata = new CellularAutomataRule(width, height, cellSize, RuleDefinition.briansBrain(), seed, 0.5);
+                seeded = true;
                 break;
             default:
                 invalidInput();
         }
 
+        if(seeded)
+            System.out.println(" * Seed: " + seed);
+
         // Once input is validated, create a new Simulator to simulate the CA specified
         Simulator simulator = new Simulator(fps, ups, cellularAutomata);
 
@@ -77,6 +98,8 @@ public class Main {
         System.out.println(" * one-dimensional");
         System.out.println(" * two-dimensional");
         System.out.println(" * cave");
+        System.out.println(" * range-cave");
+        System.out.println(" * brians-brain");
         System.exit(0);
     }
 
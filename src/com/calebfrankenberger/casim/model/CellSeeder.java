@@ -0,0 +1,108 @@
+/**
+ * Fills a grid with randomly alive cells from a seed. Every 64 cells
+ * of a column come from a single word whose bits depend only on the
+ * seed and the word's position, so columns can be filled in parallel
+ * and the same seed always produces the same grid.
+ *
+ * @author Caleb Frankenberger
+ * @date 10/19/2026
+ */
+
+package com.calebfrankenberger.casim.model;
+
+import java.util.stream.IntStream;
+
+public class CellSeeder {
+
+    private static final int DENSITY_BITS = 16; // Density is rounded to a multiple of 1/65536
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L; // Same increment SplittableRandom uses
+
+    private final long seed; // The seed that was used to create this seeder
+    private final long seedHash; // Scrambled seed, so similar seeds still give unrelated grids
+    private final int threshold; // Density scaled up to DENSITY_BITS bits
+
+    /**
+     * @param seed seed that determines which cells are alive
+     * @param density chance from 0 to 1 that any single cell starts alive
+     */
+    public CellSeeder(long seed, double density) {
+        if(!(density >= 0 && density <= 1))
+            throw new IllegalArgumentException("Density must be between 0 and 1, got " + density);
+
+        this.seed = seed;
+        this.seedHash = mix64(seed);
+        this.threshold = (int) Math.round(density * (1 << DENSITY_BITS));
+    }
+
+    // Creates a new grid of the given size. Alive cells are 1 and dead cells are 0
+    public int[][] seedGrid(int width, int height) {
+        int[][] grid = new int[width][height];
+        fillGrid(grid, width, height);
+        return grid;
+    }
+
+    // Fills the first width columns and height rows of the grid, one column per task
+    public void fillGrid(int[][] grid, int width, int height) {
+        IntStream.range(0, width).parallel().forEach(x -> fillColumn(grid[x], x, height));
+    }
+
+    private void fillColumn(int[] column, int x, int height) {
+        for(int wordIndex = 0; wordIndex * 64 < height; wordIndex++) {
+            long word = wordAt(x, wordIndex);
+            int start = wordIndex * 64;
+            int end = Math.min(start + 64, height);
+
+            for(int y = start; y < end; y++) {
+                column[y] = (int) (word & 1);
+                word >>>= 1;
+            }
+        }
+    }
+
+    /**
+     * Returns 64 cells of a column packed into one word, where bit i
+     * is the cell at row (wordIndex*64 + i). The result only depends
+     * on the seed, density, column and word index.
+     *
+     * @param x the column the word belongs to
+     * @param wordIndex which group of 64 rows in the column
+     */
+    public long wordAt(int x, int wordIndex) {
+        if(threshold == 0)
+            return 0L;
+        if(threshold == 1 << DENSITY_BITS)
+            return -1L;
+
+        /*
+         * Each random word has bits that are 1 with probability 1/2. Working from the
+         * lowest bit of the density up, OR-ing in a word where the density bit is 1 and
+         * AND-ing where it is 0 leaves every bit set with exactly the requested density.
+         * Trailing zero bits can be skipped since AND-ing into zero does nothing.
+         */
+        long result = 0L;
+        for(int bit = Integer.numberOfTrailingZeros(threshold); bit < DENSITY_BITS; bit++) {
+            long random = randomWord(x, wordIndex, bit);
+            if(((threshold >>> bit) & 1) == 1)
+                result |= random;
+            else
+                result &= random;
+        }
+        return result;
+    }
+
+    // Counter based random word. The counter packs the column, word index and draw (0 to 15) together
+    private long randomWord(int x, int wordIndex, int draw) {
+        long counter = ((long) x << 32) | ((long) wordIndex << 4) | draw;
+        return mix64(seedHash + GOLDEN_GAMMA * (counter + 1));
+    }
+
+    // The SplitMix64 output function
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getSeed() { return this.seed; }
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Read-only population and age statistics for an age-tracking
+ * cellular automata. Models update these while they step, so the
+ * numbers are available without copying or rescanning the grid.
+ *
+ * @author Caleb Frankenberger
+ * @date 10/19/2026
+ */
+
+package com.calebfrankenberger.casim.model;
+
+import java.awt.*;
+
+public final class CellStatistics {
+
+    // Age bands, matching the color bands used when drawing a 2D model
+    public static final int BAND_NEWBORN = 0; // Age 1
+    public static final int BAND_YOUNG = 1; // Age 2 to 10
+    public static final int BAND_ADULT = 2; // Age 11 to 50
+    public static final int BAND_MATURE = 3; // Age 51 to 100
+    public static final int BAND_OLD = 4; // Age 101 to 300
+    public static final int BAND_ANCIENT = 5; // Age over 300
+    public static final int BAND_COUNT = 6;
+
+    /**
+     *  Statistics are accumulated into the pending fields while a generation
+     *  is being simulated, then published all at once so a reader on another
+     *  thread never sees a half-finished generation
+     */
+    private int pendingPopulation, pendingBirths, pendingDeaths;
+    private int[] pendingHistogram = new int[BAND_COUNT];
+    private int pendingMinX, pendingMinY, pendingMaxX, pendingMaxY;
+
+    private volatile Snapshot snapshot = new Snapshot(0, 0, 0, new int[BAND_COUNT], 0, 0, -1, -1);
+
+    CellStatistics() {
+        beginGeneration();
+    }
+
+    // Clears the pending statistics before a new generation is simulated
+    void beginGeneration() {
+        pendingPopulation = 0;
+        pendingBirths = 0;
+        pendingDeaths = 0;
+        pendingHistogram = new int[BAND_COUNT];
+        pendingMinX = Integer.MAX_VALUE;
+        pendingMinY = Integer.MAX_VALUE;
+        pendingMaxX = -1;
+        pendingMaxY = -1;
+    }
+
+    // Records a single cell's transition from its previous age to its new age
+    void recordCell(int x, int y, int previousAge, int age) {
+        if(age > 0) {
+            pendingPopulation++;
+            pendingHistogram[getAgeBand(age)]++;
+
+            if(x < pendingMinX) pendingMinX = x;
+            if(x > pendingMaxX) pendingMaxX = x;
+            if(y < pendingMinY) pendingMinY = y;
+            if(y > pendingMaxY) pendingMaxY = y;
+
+            if(previousAge <= 0)
+                pendingBirths++;
+        } else if(previousAge > 0) {
+            pendingDeaths++;
+        }
+    }
+
+    // Publishes the pending statistics once every cell has been recorded
+    void endGeneration() {
+        if(pendingPopulation == 0)
+            snapshot = new Snapshot(0, pendingBirths, pendingDeaths, pendingHistogram, 0, 0, -1, -1);
+        else
+            snapshot = new Snapshot(pendingPopulation, pendingBirths, pendingDeaths, pendingHistogram,
+                    pendingMinX, pendingMinY, pendingMaxX, pendingMaxY);
+    }
+
+    // Returns which age band a living cell of the given age falls into
+    public static int getAgeBand(int age) {
+        if(age <= 1) return BAND_NEWBORN;
+        if(age > 300) return BAND_ANCIENT;
+        if(age > 100) return BAND_OLD;
+        if(age > 50) return BAND_MATURE;
+        if(age > 10) return BAND_ADULT;
+        return BAND_YOUNG;
+    }
+
+    public int getPopulation() { return snapshot.population; }
+
+    // Number of cells that were born during the last generation
+    public int getBirths() { return snapshot.births; }
+
+    // Number of cells that died during the last generation
+    public int getDeaths() { return snapshot.deaths; }
+
+    // Number of living cells whose age falls into the given band
+    public int getAgeBandCount(int band) { return snapshot.histogram[band]; }
+
+    public boolean isEmpty() { return snapshot.population == 0; }
+
+    /**
+     * @return the smallest rectangle, in cells, containing every living cell,
+     *         or null if there are no living cells
+     */
+    public Rectangle getBoundingBox() {
+        Snapshot current = snapshot;
+        if(current.population == 0)
+            return null;
+        return new Rectangle(current.minX, current.minY,
+                current.maxX - current.minX + 1, current.maxY - current.minY + 1);
+    }
+
+    // An immutable copy of the statistics for a single generation
+    private static final class Snapshot {
+        private final int population, births, deaths;
+        private final int[] histogram;
+        private final int minX, minY, maxX, maxY;
+
+        private Snapshot(int population, int births, int deaths, int[] histogram,
+                         int minX, int minY, int maxX, int maxY) {
+            this.population = population;
+            this.births = births;
+            this.deaths = deaths;
+            this.histogram = histogram;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+    }
+
+}
@@ -8,9 +8,13 @@ package com.calebfrankenberger.casim.model;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
 
 public class CellularAutomata1D implements CellularAutomata {
 
+    private static final int CHECKPOINT_INTERVAL = 1024; // Number of generations between saved checkpoints
+
     private final int[] ruleset; // The ruleset to use when calculating a cells next state
 
     private final int pixelWidth, pixelHeight; // The width and height of the entire canvas, in pixels
@@ -18,7 +22,31 @@ public class CellularAutomata1D implements CellularAutomata {
     private final int width, height; // The width and height of the grid of cells
 
     private int[] cells; // This array stores the single current generation of the CA
-    private int[][] displayGrid; // This grid will store multiple generations over time
+
+    /**
+     *  Circular buffer holding the most recent generations, one row per generation.
+     *  Screen row y is stored at index (displayHead + y) % height, so scrolling only
+     *  moves the head instead of copying rows.
+     */
+    private final int[][] displayRows;
+    private int displayHead; // Index of the oldest row in the display buffer
+    private int displayCount; // Number of rows in the display buffer that have been filled
+    private int[] spareRow; // Row to reuse for the next generation
+
+    /**
+     *  Copies of every CHECKPOINT_INTERVAL-th generation, starting with the initial one.
+     *  Any row can be recomputed from the nearest checkpoint before it.
+     */
+    private final List<int[]> checkpoints = new ArrayList<>();
+
+    /**
+     *  Guards the display buffer, checkpoints and generation count, so rows can be
+     *  painted by drawModel and read with getRow and getRows on other threads
+     *  while the simulation steps
+     */
+    private final Object historyLock = new Object();
+
+    private final int[][] paintRows; // Copy of the visible rows, only used by drawModel
 
     private int generationCount; // Total number of generations that have been simulated
 
@@ -37,16 +65,17 @@ public class CellularAutomata1D implements CellularAutomata {
         this.width = pixelWidth/cellSize;
         this.height = pixelHeight/cellSize;
 
-        this.displayGrid = new int[width][height];
-
-        int[] initGen = new int[width];
-        for(int i = 0; i < width; i++) {
+        int[] initGen = new int[this.width];
+        for(int i = 0; i < this.width; i++) {
             initGen[i] = initialGeneration[i];
         }
 
-        this.cells = initGen;
+        this.displayRows = new int[this.height][];
+        this.paintRows = new int[this.height][this.width];
         this.ruleset = ruleset;
         this.generationCount = 0;
+
+        startHistory(initGen);
     }
 
     // If no initial generationCount is given, all cells default to 0 except the middle
@@ -57,42 +86,52 @@ public class CellularAutomata1D implements CellularAutomata {
         this.width = pixelWidth/cellSize;
         this.height = pixelHeight/cellSize;
 
-        this.displayGrid = new int[this.width][this.height];
-        this.cells = new int[this.width];
-
-        for(int i = 0; i < this.width; i++)
-            this.cells[i] = 0;
-        this.cells[this.width/2] = 1;
-        this.displayGrid[this.width/2][0] = 1;
+        int[] initGen = new int[this.width];
+        initGen[this.width/2] = 1;
 
+        this.displayRows = new int[this.height][];
+        this.paintRows = new int[this.height][this.width];
         this.ruleset = ruleset;
         this.generationCount = 0;
+
+        startHistory(initGen);
+    }
+
+    // Makes the initial generation the first display row and the first checkpoint
+    private void startHistory(int[] initialGeneration) {
+        this.cells = initialGeneration;
+        this.displayRows[0] = initialGeneration;
+        this.displayHead = 0;
+        this.displayCount = 1;
+        this.spareRow = new int[width];
+        this.checkpoints.add(initialGeneration.clone());
     }
 
     // Simulate one generationCount of the CA
     public void simulateGeneration() {
-        // Create a new array to store the next generationCount
-        int[] nextGeneration = new int[cells.length];
-        int row = generationCount;
-
-        // For every cell, determine its next state by looking at its neighbors
-        for(int i = 0; i < cells.length; i++) {
-            int newState = calculateNextState(i);
-            nextGeneration[i] = newState;
-
-            if(this.generationCount >= this.height)
-                row = this.height-1;
+        // Calculate the next generation into a row that is no longer needed
+        int[] nextGeneration = spareRow;
+        step(cells, nextGeneration);
+
+        synchronized(historyLock) {
+            // Until the screen fills, append rows. After that, overwrite the oldest row and move the head
+            if(displayCount < height) {
+                displayRows[displayCount] = nextGeneration;
+                displayCount++;
+                spareRow = new int[width];
+            } else {
+                spareRow = displayRows[displayHead];
+                displayRows[displayHead] = nextGeneration;
+                displayHead = (displayHead + 1) % height;
+            }
 
-            displayGrid[i][row] = newState;
-        }
+            this.cells = nextGeneration;
+            this.generationCount++;
 
-        // If at the bottom of the screen, scroll the display grid
-        if(this.generationCount >= this.height-1) {
-            scrollDisplayGrid();
+            // Save a checkpoint, unless getRow has already computed this one
+            if(generationCount % CHECKPOINT_INTERVAL == 0 && checkpoints.size() == generationCount / CHECKPOINT_INTERVAL)
+                checkpoints.add(nextGeneration.clone());
         }
-
-        this.cells = nextGeneration;
-        this.generationCount++;
     }
 
     // Simulate n generations at a time
@@ -101,24 +140,138 @@ public class CellularAutomata1D implements CellularAutomata {
             simulateGeneration();
     }
 
+    /**
+     * Returns a copy of any generation of the CA, including ones that have
+     * scrolled off the screen or have not been simulated yet. Rows are
+     * recomputed from the nearest checkpoint, so at most CHECKPOINT_INTERVAL
+     * generations are calculated for each call.
+     *
+     * @param generation the generation (row of the space-time diagram) to return
+     */
+    public int[] getRow(int generation) {
+        return getRows(generation, 1)[0];
+    }
+
+    /**
+     * Returns copies of count consecutive generations, starting at start.
+     * Tall diagrams can be rendered or exported one slice at a time this way
+     * without keeping every row in memory. This is safe to call from another
+     * thread while the simulation is running.
+     *
+     * @param start the first generation to return
+     * @param count how many generations to return
+     */
+    public int[][] getRows(int start, int count) {
+        if(start < 0 || count < 0)
+            throw new IllegalArgumentException("Invalid row range: start " + start + ", count " + count);
+
+        int[][] rows = new int[count][];
+        if(count == 0)
+            return rows;
+
+        // Walk forward from the closest checkpoint at or before the first row
+        int[] current = getCheckpoint(start / CHECKPOINT_INTERVAL).clone();
+        int[] next = new int[width];
+        int generation = (start / CHECKPOINT_INTERVAL) * CHECKPOINT_INTERVAL;
+
+        for(int i = 0; i < count; i++) {
+            int target = start + i;
+
+            // Rows still in the display buffer can be copied instead of recalculated
+            int[] displayRow = copyDisplayRow(target);
+            if(displayRow != null) {
+                rows[i] = displayRow;
+                continue;
+            }
+
+            if(target - generation >= CHECKPOINT_INTERVAL) {
+                current = getCheckpoint(target / CHECKPOINT_INTERVAL).clone();
+                generation = (target / CHECKPOINT_INTERVAL) * CHECKPOINT_INTERVAL;
+            }
+
+            while(generation < target) {
+                step(current, next);
+                int[] temp = current;
+                current = next;
+                next = temp;
+                generation++;
+            }
+            rows[i] = current.clone();
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the given checkpoint, calculating any missing checkpoints before it.
+     * The calculation happens outside the lock so the simulation is not held up,
+     * and a checkpoint is only added if the simulation has not added it first.
+     */
+    private int[] getCheckpoint(int index) {
+        int[] current;
+        int known;
+        synchronized(historyLock) {
+            if(index < checkpoints.size())
+                return checkpoints.get(index);
+            known = checkpoints.size()-1;
+            current = checkpoints.get(known).clone();
+        }
+
+        int[] next = new int[width];
+        while(known < index) {
+            for(int i = 0; i < CHECKPOINT_INTERVAL; i++) {
+                step(current, next);
+                int[] temp = current;
+                current = next;
+                next = temp;
+            }
+            known++;
+
+            synchronized(historyLock) {
+                if(checkpoints.size() == known)
+                    checkpoints.add(current.clone());
+            }
+        }
+
+        synchronized(historyLock) {
+            return checkpoints.get(index);
+        }
+    }
+
+    // Returns a copy of a generation from the display buffer, or null if it is not there
+    private int[] copyDisplayRow(int generation) {
+        synchronized(historyLock) {
+            int oldest = generationCount - displayCount + 1;
+            if(generation < oldest || generation > generationCount)
+                return null;
+            return displayRows[(displayHead + generation - oldest) % height].clone();
+        }
+    }
+
+    // Calculates the generation after source and writes it into target
+    private void step(int[] source, int[] target) {
+        // For every cell, determine its next state by looking at its neighbors
+        for(int i = 0; i < source.length; i++)
+            target[i] = calculateNextState(source, i);
+    }
+
     // Calculates next state for a given cell index
-    private int calculateNextState(int i) {
+    private int calculateNextState(int[] source, int i) {
         int leftState, rightState, currState;
 
         // If the cell being looked at is on an edge, wrap around to opposite side
         if(i == 0) {
-            leftState = cells[cells.length-1];
+            leftState = source[source.length-1];
         } else {
-            leftState = cells[i -1];
+            leftState = source[i -1];
         }
 
-        if(i == cells.length-1) {
-            rightState = cells[0];
+        if(i == source.length-1) {
+            rightState = source[0];
         } else {
-            rightState = cells[i +1];
+            rightState = source[i +1];
         }
 
-        currState = cells[i];
+        currState = source[i];
 
         // Determine the next state using the ruleset
         return applyRuleset(leftState, rightState, currState);
@@ -137,28 +290,31 @@ public class CellularAutomata1D implements CellularAutomata {
         return 0;
     }
 
-    // Shifts every row in the display grid up by one, freeing up the last row for a new generation
-    private void scrollDisplayGrid() {
-        int[][] newGrid = new int[width][height];
-
-        for(int i = 0; i < height; i++) {
-            for(int j = 0; j < width-1; j++)
-                newGrid[i][j] = displayGrid[i][(j+1) % width];
-            newGrid[i][width-1] = 0;
-        }
-        displayGrid = newGrid;
-    }
-
     // Draws the grid
     public void drawModel(Graphics graphics) {
         Graphics2D g2d = (Graphics2D) graphics;
 
-        for(int x = 0; x < width; x++) {
-            for(int y = 0; y < height; y++) {
+        /*
+         * Painting happens on the Swing thread while the simulation steps. Rows that
+         * scroll off the screen are reused and rewritten outside the lock, so the
+         * visible rows are copied under the lock rather than read in place.
+         */
+        int rowCount;
+        synchronized(historyLock) {
+            rowCount = displayCount;
+            for(int y = 0; y < rowCount; y++)
+                System.arraycopy(displayRows[(displayHead + y) % height], 0, paintRows[y], 0, width);
+        }
+
+        for(int y = 0; y < height; y++) {
+            // Rows that have not been filled yet are drawn as empty
+            int[] row = y < rowCount ? paintRows[y] : null;
+
+            for(int x = 0; x < width; x++) {
                 // Create a new rectangle at its correct location in the grid, of width and height cellSize
                 Rectangle2D.Double cell = new Rectangle2D.Double(x*cellSize, y*cellSize, cellSize, cellSize);
                 // Determine the rectangle color based off its value in the grid
-                if(displayGrid[x][y] == 1) {
+                if(row != null && row[x] == 1) {
                     g2d.setColor(Color.BLACK);
                 } else {
                     g2d.setColor(Color.WHITE);
@@ -169,7 +325,15 @@ public class CellularAutomata1D implements CellularAutomata {
         }
     }
 
-    public int[] getCurrentGeneration() { return this.cells; };
+    /**
+     * Returns a copy of the current generation. The model reuses its row arrays
+     * once they scroll off the screen, so the live row is never handed out.
+     */
+    public int[] getCurrentGeneration() {
+        synchronized(historyLock) {
+            return this.cells.clone();
+        }
+    }
 
     public int[] getRules() { return this.ruleset; };
 
@@ -10,6 +10,8 @@ package com.calebfrankenberger.casim.model;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.OptionalLong;
 import java.util.Random;
 
 public class CellularAutomataCave implements CellularAutomata {
@@ -25,8 +27,12 @@ public class CellularAutomataCave implements CellularAutomata {
      */
     private int[][] cells;
 
+    private final Long seed; // Seed the starting grid was created from, null if an initial generation was given
+
     private int generationCount; // Total number of generations that have been simulated
 
+    private final CellStatistics statistics = new CellStatistics(); // Population and age statistics, updated while stepping
+
     /**
      * @param width width of canvas in pixels
      * @param height height of canvas in pixels
@@ -49,30 +55,39 @@ public class CellularAutomataCave implements CellularAutomata {
         }
 
         this.cells = initGen;
+        this.seed = null;
         this.generationCount = 0;
+
+        recordInitialStatistics();
     }
 
-    // If no initial generationCount is given, randomly make some of the cells alive
+    // If no initial generationCount is given, randomly make about half of the cells alive
     public CellularAutomataCave(int width, int height, int cellSize) {
+        this(width, height, cellSize, new Random().nextLong(), 0.5);
+    }
+
+    /**
+     * Randomly makes some of the cells alive. The same seed and density always give the same grid
+     *
+     * @param width width of canvas in pixels
+     * @param height height of canvas in pixels
+     * @param cellSize size of each square cells in pixels
+     * @param seed seed used to choose which cells start alive
+     * @param density chance from 0 to 1 that any single cell starts alive
+     */
+    public CellularAutomataCave(int width, int height, int cellSize, long seed, double density) {
         this.pixelWidth = width;
         this.pixelHeight = height;
         this.cellSize = cellSize;
         this.width = pixelWidth/cellSize;
         this.height = pixelHeight/cellSize;
 
-        Random random = new Random();
-
-        this.cells = new int[width][height];
-        for(int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                if(random.nextInt(2) == 1)
-                    this.cells[x][y] = 1;
-                else
-                    this.cells[x][y] = 0;
-            }
-        }
+        this.cells = new CellSeeder(seed, density).seedGrid(this.width, this.height);
 
+        this.seed = seed;
         this.generationCount = 0;
+
+        recordInitialStatistics();
     }
 
     // Simulate one generationCount of the CA
@@ -80,16 +95,31 @@ public class CellularAutomataCave implements CellularAutomata {
         // Create a new array to store the next generationCount
         int[][] nextGeneration = new int[width][height];
 
+        statistics.beginGeneration();
+
         // For every cell on the grid, calculate its next state by looking at how many alive neighbors it hass
         for(int x = 0; x < width; x++) {
             for(int y = 0; y < height; y++) {
                 int nextState = calculateNextState(x, y);
                 nextGeneration[x][y] = nextState;
+                statistics.recordCell(x, y, cells[x][y], nextState);
             }
         }
 
         this.generationCount++;
         cells = nextGeneration;
+
+        statistics.endGeneration();
+    }
+
+    // Fills in the statistics for the starting grid, so they are valid before the first generation
+    private void recordInitialStatistics() {
+        statistics.beginGeneration();
+        for(int x = 0; x < width; x++) {
+            for(int y = 0; y < height; y++)
+                statistics.recordCell(x, y, cells[x][y], cells[x][y]);
+        }
+        statistics.endGeneration();
     }
 
     // Simulate n generations at a time
@@ -160,7 +190,7 @@ public class CellularAutomataCave implements CellularAutomata {
                 // Create a new rectangle at its correct location in the grid, of width and height cellSize
                 Rectangle2D.Double cell = new Rectangle2D.Double(x*cellSize, y*cellSize, cellSize, cellSize);
                 // Determine the rectangle color based off its value in the grid
-                int age = getCurrentGeneration()[x][y]; // 0 is a dead cell, any other number is how many generations that cell has been alive
+                int age = cells[x][y]; // 0 is a dead cell, any other number is how many generations that cell has been alive
                 if(age > 0) {
                     g2d.setColor(new Color(116, 85, 52));
                 } else {
@@ -172,7 +202,25 @@ public class CellularAutomataCave implements CellularAutomata {
         }
     }
 
-    public int[][] getCurrentGeneration() { return this.cells; };
+    /**
+     * Returns a copy of the current generation. Scanning the copy is slow on large
+     * grids, use getCellAge for single cells or getStatistics for population counts.
+     */
+    @Deprecated
+    public int[][] getCurrentGeneration() {
+        int[][] copy = new int[width][];
+        for(int x = 0; x < width; x++)
+            copy[x] = Arrays.copyOf(cells[x], height);
+        return copy;
+    }
+
+    // Returns the age of a single cell without exposing the grid, 0 if the cell is dead
+    public int getCellAge(int x, int y) { return this.cells[x][y]; }
+
+    public CellStatistics getStatistics() { return this.statistics; }
+
+    // Returns the seed the starting grid was created from, so the run can be repeated
+    public OptionalLong getSeed() { return seed == null ? OptionalLong.empty() : OptionalLong.of(seed); }
 
     public int getGenerationCount() { return this.generationCount; }
 
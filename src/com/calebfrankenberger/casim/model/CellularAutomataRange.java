@@ -0,0 +1,238 @@
+/**
+ * This is a Larger than Life variation on the cave CA, where every
+ * cell looks at all neighbors within a radius instead of only the 8
+ * touching it. The rule is stepped by a RuleKernel, which counts
+ * neighbors from a summed-area table so each cell costs the same no
+ * matter how large the radius is. This class only adds cell ages and
+ * statistics on top of the kernel.
+ *
+ * @author Caleb Frankenberger
+ * @date 10/19/2026
+ */
+
+package com.calebfrankenberger.casim.model;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.OptionalLong;
+import java.util.Random;
+
+public class CellularAutomataRange implements CellularAutomata {
+
+    private final int pixelWidth, pixelHeight; // The width and height of the entire canvas, in pixels
+    private final int cellSize; // Size, in pixels, of each cell
+    private final int width, height; // The width and height of the grid of cells
+
+    private final int radius; // How far away, in cells, a neighbor can be in each direction
+    private final boolean wrapEdges; // If true edges wrap to the opposite side, otherwise cells past the edge are dead
+
+    private final RuleDefinition rule; // Birth and survival ranges as a two state rule, 1 is alive
+    private final RuleKernel kernel; // The rule compiled into a kernel
+
+    /**
+     *  This 2D array will store the values for every cell in the CA.
+     *  Any cell with a value of 0 is dead, and a number greater than zero
+     *  is the number of generations that cell has been alive for
+     */
+    private int[][] cells;
+
+    // The same grid as cells with every living cell set to 1, which is what the kernel steps
+    private int[][] alive;
+    private int[][] nextAlive;
+
+    private final Long seed; // Seed the starting grid was created from, null if an initial generation was given
+
+    private int generationCount; // Total number of generations that have been simulated
+
+    private final CellStatistics statistics = new CellStatistics(); // Population and age statistics, updated while stepping
+
+    /**
+     * @param width width of canvas in pixels
+     * @param height height of canvas in pixels
+     * @param cellSize size of each square cells in pixels
+     * @param radius neighborhood radius, in cells
+     * @param birthMin fewest living neighbors for a dead cell to be born
+     * @param birthMax most living neighbors for a dead cell to be born
+     * @param survivalMin fewest living neighbors for a living cell to survive
+     * @param survivalMax most living neighbors for a living cell to survive
+     * @param wrapEdges true to wrap edges, false to treat cells past the edge as dead
+     * @param initialGeneration starting generationCount
+     */
+    public CellularAutomataRange(int width, int height, int cellSize, int radius, int birthMin, int birthMax,
+                                 int survivalMin, int survivalMax, boolean wrapEdges, int[][] initialGeneration) {
+        this(width, height, cellSize, radius, birthMin, birthMax, survivalMin, survivalMax, wrapEdges, initialGeneration, null);
+    }
+
+    // Shared by every constructor, seed is null if the starting grid was not created from a seed
+    private CellularAutomataRange(int width, int height, int cellSize, int radius, int birthMin, int birthMax,
+                                  int survivalMin, int survivalMax, boolean wrapEdges, int[][] initialGeneration, Long seed) {
+        this.pixelWidth = width;
+        this.pixelHeight = height;
+        this.cellSize = cellSize;
+        this.width = pixelWidth/cellSize;
+        this.height = pixelHeight/cellSize;
+
+        if(radius < 1)
+            throw new IllegalArgumentException("Radius must be at least 1, got " + radius);
+
+        this.radius = radius;
+        this.wrapEdges = wrapEdges;
+
+        this.rule = new RuleDefinition("Range " + radius, 2, 1, RuleDefinition.mooreNeighborhood(radius), (state, count) -> {
+            if(state == 0)
+                return (count >= birthMin && count <= birthMax) ? 1 : 0; // Birth
+            return (count >= survivalMin && count <= survivalMax) ? 1 : 0; // Survival
+        });
+        this.kernel = RuleKernel.compile(rule, wrapEdges);
+        this.kernel.checkSize(this.width, this.height); // Wrapping a radius wider than the grid would count cells twice
+
+        // Copy the provided initial generationCount into current generationCount array
+        int[][] initGen = new int[this.width][this.height];
+        this.alive = new int[this.width][this.height];
+        for(int x = 0; x < this.width; x++) {
+            for (int y = 0; y < this.height; y++) {
+                initGen[x][y] = initialGeneration[x][y];
+                alive[x][y] = initGen[x][y] >= 1 ? 1 : 0;
+            }
+        }
+
+        this.nextAlive = new int[this.width][this.height];
+        this.cells = initGen;
+        this.seed = seed;
+        this.generationCount = 0;
+
+        recordInitialStatistics();
+    }
+
+    /**
+     * Randomly makes some of the cells alive. The same seed and density always give the same grid
+     *
+     * @param width width of canvas in pixels
+     * @param height height of canvas in pixels
+     * @param cellSize size of each square cells in pixels
+     * @param radius neighborhood radius, in cells
+     * @param birthMin fewest living neighbors for a dead cell to be born
+     * @param birthMax most living neighbors for a dead cell to be born
+     * @param survivalMin fewest living neighbors for a living cell to survive
+     * @param survivalMax most living neighbors for a living cell to survive
+     * @param wrapEdges true to wrap edges, false to treat cells past the edge as dead
+     * @param seed seed used to choose which cells start alive
+     * @param density chance from 0 to 1 that any single cell starts alive
+     */
+    public CellularAutomataRange(int width, int height, int cellSize, int radius, int birthMin, int birthMax,
+                                 int survivalMin, int survivalMax, boolean wrapEdges, long seed, double density) {
+        this(width, height, cellSize, radius, birthMin, birthMax, survivalMin, survivalMax, wrapEdges,
+                new CellSeeder(seed, density).seedGrid(width/cellSize, height/cellSize), seed);
+    }
+
+    /**
+     * If no rule is given, use a majority rule that smooths random noise into caves.
+     * Cells are born when more than half of their neighbors are alive, and survive
+     * when at least half are.
+     *
+     * @param width width of canvas in pixels
+     * @param height height of canvas in pixels
+     * @param cellSize size of each square cells in pixels
+     * @param radius neighborhood radius, in cells
+     * @param wrapEdges true to wrap edges, false to treat cells past the edge as dead
+     * @param seed seed used to choose which cells start alive
+     */
+    public CellularAutomataRange(int width, int height, int cellSize, int radius, boolean wrapEdges, long seed) {
+        this(width, height, cellSize, radius,
+                getNeighborhoodSize(radius)/2 + 1, getNeighborhoodSize(radius),
+                getNeighborhoodSize(radius)/2, getNeighborhoodSize(radius),
+                wrapEdges, seed, 0.5);
+    }
+
+    // Majority rule caves from a random seed
+    public CellularAutomataRange(int width, int height, int cellSize, int radius, boolean wrapEdges) {
+        this(width, height, cellSize, radius, wrapEdges, new Random().nextLong());
+    }
+
+    // Number of neighbors a cell has at the given radius, not counting itself
+    public static int getNeighborhoodSize(int radius) {
+        return (2*radius + 1) * (2*radius + 1) - 1;
+    }
+
+    // Simulate one generationCount of the CA
+    public void simulateGeneration() {
+        kernel.step(alive, nextAlive, width, height);
+
+        // Create a new array to store the next generationCount
+        int[][] nextGeneration = new int[width][height];
+
+        statistics.beginGeneration();
+
+        // Living cells get one generation older, everything else is dead
+        for(int x = 0; x < width; x++) {
+            int[] next = nextAlive[x];
+            for(int y = 0; y < height; y++) {
+                int nextState = next[y] == 1 ? cells[x][y]+1 : 0;
+                nextGeneration[x][y] = nextState;
+                statistics.recordCell(x, y, cells[x][y], nextState);
+            }
+        }
+
+        int[][] temp = alive;
+        alive = nextAlive;
+        nextAlive = temp;
+
+        this.generationCount++;
+        cells = nextGeneration;
+
+        statistics.endGeneration();
+    }
+
+    // Simulate n generations at a time
+    public void simulateGenerations(int n) {
+        for(int i = 0; i < n; i++)
+            simulateGeneration();
+    }
+
+    // Fills in the statistics for the starting grid, so they are valid before the first generation
+    private void recordInitialStatistics() {
+        statistics.beginGeneration();
+        for(int x = 0; x < width; x++) {
+            for(int y = 0; y < height; y++)
+                statistics.recordCell(x, y, cells[x][y], cells[x][y]);
+        }
+        statistics.endGeneration();
+    }
+
+    // Draws the grid
+    public void drawModel(Graphics graphics) {
+        Graphics2D g2d = (Graphics2D) graphics;
+        for(int x = 0; x < width; x++) {
+            for(int y = 0; y < height; y++) {
+                // Create a new rectangle at its correct location in the grid, of width and height cellSize
+                Rectangle2D.Double cell = new Rectangle2D.Double(x*cellSize, y*cellSize, cellSize, cellSize);
+                // Determine the rectangle color based off its value in the grid
+                int age = cells[x][y]; // 0 is a dead cell, any other number is how many generations that cell has been alive
+                if(age > 0) {
+                    g2d.setColor(new Color(116, 85, 52));
+                } else {
+                    g2d.setColor(new Color(49, 35, 26));
+                }
+                // Fill the rectangle with correct color
+                g2d.fill(cell);
+            }
+        }
+    }
+
+    // Returns the age of a single cell without exposing the grid, 0 if the cell is dead
+    public int getCellAge(int x, int y) { return this.cells[x][y]; }
+
+    public CellStatistics getStatistics() { return this.statistics; }
+
+    public int getRadius() { return this.radius; }
+
+    public boolean isWrappingEdges() { return this.wrapEdges; }
+
+    public RuleDefinition getRule() { return this.rule; }
+
+    // Returns the seed the starting grid was created from, so the run can be repeated
+    public OptionalLong getSeed() { return seed == null ? OptionalLong.empty() : OptionalLong.of(seed); }
+
+    public int getGenerationCount() { return this.generationCount; }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * This class is used to model a two-dimensional cellular automata
+ * that follows any RuleDefinition, such as Brian's Brain, Wireworld
+ * or a Generations rule. The rule is compiled into a RuleKernel once,
+ * when the model is created.
+ *
+ * @author Caleb Frankenberger
+ * @date 10/19/2026
+ */
+
+package com.calebfrankenberger.casim.model;
+
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.OptionalLong;
+import java.util.Random;
+
+public class CellularAutomataRule implements CellularAutomata {
+
+    private final int pixelWidth, pixelHeight; // The width and height of the entire canvas, in pixels
+    private final int cellSize; // Size, in pixels, of each cell
+    private final int width, height; // The width and height of the grid of cells
+
+    private final RuleDefinition rule; // The rule this model follows
+    private final RuleKernel kernel; // The rule compiled into a kernel
+    private final Color[] palette; // Color to draw each state with
+
+    /**
+     *  This 2D array will store the state of every cell in the CA,
+     *  from 0 to the number of states in the rule minus 1
+     */
+    private int[][] cells;
+    private int[][] nextCells; // Reused every generation to hold the next generation
+
+    private final Long seed; // Seed the starting grid was created from, null if an initial generation was given
+
+    private int generationCount; // Total number of generations that have been simulated
+
+    /**
+     * @param width width of canvas in pixels
+     * @param height height of canvas in pixels
+     * @param cellSize size of each square cells in pixels
+     * @param rule rule to follow
+     * @param initialGeneration starting generationCount
+     */
+    public CellularAutomataRule(int width, int height, int cellSize, RuleDefinition rule, int[][] initialGeneration) {
+        this.pixelWidth = width;
+        this.pixelHeight = height;
+        this.cellSize = cellSize;
+        this.width = pixelWidth/cellSize;
+        this.height = pixelHeight/cellSize;
+
+        this.rule = rule;
+        this.kernel = RuleKernel.compile(rule);
+        this.kernel.checkSize(this.width, this.height);
+        this.palette = createPalette(rule.getStates());
+
+        // Copy the provided initial generationCount into current generationCount array
+        int[][] initGen = new int[this.width][this.height];
+        for(int x = 0; x < this.width; x++) {
+            for (int y = 0; y < this.height; y++) {
+                int state = initialGeneration[x][y];
+                if(state < 0 || state >= rule.getStates())
+                    throw new IllegalArgumentException("Cell (" + x + ", " + y + ") has invalid state " + state);
+                initGen[x][y] = state;
+            }
+        }
+
+        this.cells = initGen;
+        this.nextCells = new int[this.width][this.height];
+        this.seed = null;
+        this.generationCount = 0;
+    }
+
+    // If no initial generationCount is given, randomly put about half of the cells in the counted state
+    public CellularAutomataRule(int width, int height, int cellSize, RuleDefinition rule) {
+        this(width, height, cellSize, rule, new Random().nextLong(), 0.5);
+    }
+
+    /**
+     * Randomly puts some of the cells in the rule's counted state, the rest start in state 0
+     *
+     * @param width width of canvas in pixels
+     * @param height height of canvas in pixels
+     * @param cellSize size of each square cells in pixels
+     * @param rule rule to follow
+     * @param seed seed used to choose which cells start in the counted state
+     * @param density chance from 0 to 1 that any single cell starts in the counted state
+     */
+    public CellularAutomataRule(int width, int height, int cellSize, RuleDefinition rule, long seed, double density) {
+        this.pixelWidth = width;
+        this.pixelHeight = height;
+        this.cellSize = cellSize;
+        this.width = pixelWidth/cellSize;
+        this.height = pixelHeight/cellSize;
+
+        this.rule = rule;
+        this.kernel = RuleKernel.compile(rule);
+        this.kernel.checkSize(this.width, this.height);
+        this.palette = createPalette(rule.getStates());
+
+        this.cells = new CellSeeder(seed, density).seedGrid(this.width, this.height);
+        int counted = rule.getCountedState();
+        for(int x = 0; x < this.width; x++) {
+            for(int y = 0; y < this.height; y++)
+                this.cells[x][y] *= counted;
+        }
+
+        this.nextCells = new int[this.width][this.height];
+        this.seed = seed;
+        this.generationCount = 0;
+    }
+
+    // Simulate one generationCount of the CA
+    public void simulateGeneration() {
+        kernel.step(cells, nextCells, width, height);
+
+        // Swap the grids so the old generation's array is reused next time
+        int[][] temp = cells;
+        cells = nextCells;
+        nextCells = temp;
+
+        this.generationCount++;
+    }
+
+    // Simulate n generations at a time
+    public void simulateGenerations(int n) {
+        for(int i = 0; i < n; i++)
+            simulateGeneration();
+    }
+
+    // State 0 uses the same background as the 2D model, the other states fade from green to gold
+    private static Color[] createPalette(int states) {
+        Color[] colors = new Color[states];
+        colors[0] = new Color(7, 16, 39);
+
+        Color first = new Color(74, 178, 118);
+        Color last = new Color(220, 175, 22);
+        for(int state = 1; state < states; state++) {
+            float t = states == 2 ? 0 : (float) (state-1) / (states-2);
+            colors[state] = new Color(
+                    Math.round(first.getRed() + t*(last.getRed() - first.getRed())),
+                    Math.round(first.getGreen() + t*(last.getGreen() - first.getGreen())),
+                    Math.round(first.getBlue() + t*(last.getBlue() - first.getBlue())));
+        }
+        return colors;
+    }
+
+    // Draws the grid
+    public void drawModel(Graphics graphics) {
+        Graphics2D g2d = (Graphics2D) graphics;
+        for(int x = 0; x < width; x++) {
+            for(int y = 0; y < height; y++) {
+                // Create a new rectangle at its correct location in the grid, of width and height cellSize
+                Rectangle2D.Double cell = new Rectangle2D.Double(x*cellSize, y*cellSize, cellSize, cellSize);
+                // Determine the rectangle color based off the cell's state
+                g2d.setColor(palette[cells[x][y]]);
+                // Fill the rectangle with correct color
+                g2d.fill(cell);
+            }
+        }
+    }
+
+    // Returns the state of a single cell without exposing the grid
+    public int getCellState(int x, int y) { return this.cells[x][y]; }
+
+    public RuleDefinition getRule() { return this.rule; }
+
+    // Returns the seed the starting grid was created from, so the run can be repeated
+    public OptionalLong getSeed() { return seed == null ? OptionalLong.empty() : OptionalLong.of(seed); }
+
+    public int getGenerationCount() { return this.generationCount; }
+
+}
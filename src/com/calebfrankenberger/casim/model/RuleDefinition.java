@@ -0,0 +1,223 @@
+/**
+ * Describes a multi-state cellular automata rule without any code
+ * for simulating it. A rule is made of a number of states, a
+ * neighborhood, the state that is counted among the neighbors, and
+ * a transition from (current state, neighbor count) to next state.
+ * RuleKernel turns a definition into a kernel that can be stepped.
+ *
+ * @author Caleb Frankenberger
+ * @date 10/19/2026
+ */
+
+package com.calebfrankenberger.casim.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class RuleDefinition {
+
+    // Calculates a cell's next state from its current state and the number of counted neighbors
+    @FunctionalInterface
+    public interface Transition {
+        int nextState(int state, int count);
+    }
+
+    private final String name; // Name of the rule, used for display
+    private final int states; // Number of states, cells hold values from 0 to states-1
+    private final int countedState; // Neighbors in this state are the ones that are counted
+    private final int[][] neighborhood; // {dx, dy} offset of every neighbor, not including the cell itself
+    private final int[][] transitions; // transitions[state][count] is the next state
+
+    /**
+     * @param name name of the rule
+     * @param states number of states
+     * @param countedState state that is counted among the neighbors
+     * @param neighborhood {dx, dy} offsets of every neighbor
+     * @param transition transition that is evaluated once for every state and count
+     */
+    public RuleDefinition(String name, int states, int countedState, int[][] neighborhood, Transition transition) {
+        if(states < 2)
+            throw new IllegalArgumentException("A rule needs at least 2 states, got " + states);
+        if(countedState < 0 || countedState >= states)
+            throw new IllegalArgumentException("Counted state " + countedState + " is not one of the " + states + " states");
+
+        this.name = name;
+        this.states = states;
+        this.countedState = countedState;
+
+        this.neighborhood = new int[neighborhood.length][];
+        for(int i = 0; i < neighborhood.length; i++) {
+            if(neighborhood[i][0] == 0 && neighborhood[i][1] == 0)
+                throw new IllegalArgumentException("The neighborhood must not include the cell itself");
+            this.neighborhood[i] = new int[] {neighborhood[i][0], neighborhood[i][1]};
+        }
+
+        // Build the full transition table up front, so the transition never runs while stepping
+        this.transitions = new int[states][neighborhood.length+1];
+        for(int state = 0; state < states; state++) {
+            for(int count = 0; count <= neighborhood.length; count++) {
+                int next = transition.nextState(state, count);
+                if(next < 0 || next >= states)
+                    throw new IllegalArgumentException("Transition from state " + state + " with " + count
+                            + " neighbors gives invalid state " + next);
+                this.transitions[state][count] = next;
+            }
+        }
+    }
+
+    // Every cell within radius in both directions (Chebyshev distance)
+    public static int[][] mooreNeighborhood(int radius) {
+        List<int[]> offsets = new ArrayList<>();
+        for(int dx = -radius; dx <= radius; dx++) {
+            for(int dy = -radius; dy <= radius; dy++) {
+                if(dx != 0 || dy != 0)
+                    offsets.add(new int[] {dx, dy});
+            }
+        }
+        return offsets.toArray(new int[0][]);
+    }
+
+    // Every cell within radius steps horizontally plus vertically (Manhattan distance)
+    public static int[][] vonNeumannNeighborhood(int radius) {
+        List<int[]> offsets = new ArrayList<>();
+        for(int dx = -radius; dx <= radius; dx++) {
+            for(int dy = -radius; dy <= radius; dy++) {
+                if((dx != 0 || dy != 0) && Math.abs(dx) + Math.abs(dy) <= radius)
+                    offsets.add(new int[] {dx, dy});
+            }
+        }
+        return offsets.toArray(new int[0][]);
+    }
+
+    /**
+     * Creates a Generations rule from its B/S/C rule string, for example
+     * "B3/S23" for Life or "B2/S345/C4" for Star Wars. State 1 is alive,
+     * states 2 and up are dying: each generation they move up one state
+     * regardless of neighbors, and after state C-1 they return to 0.
+     * If C is left out the rule has 2 states.
+     *
+     * For neighborhoods of up to 9 cells, counts are written one digit each.
+     * Larger neighborhoods can have counts of 10 or more, so there the counts
+     * are a comma separated list of numbers and ranges, for example
+     * "B34..45/S33..57,60/C2" or "B10/S2". The list form also works for
+     * small neighborhoods.
+     *
+     * @param rule rule string in B/S/C notation
+     * @param neighborhood neighborhood to count live cells in
+     */
+    public static RuleDefinition generations(String rule, int[][] neighborhood) {
+        boolean[] birth = new boolean[neighborhood.length+1];
+        boolean[] survival = new boolean[neighborhood.length+1];
+        int states = 2;
+
+        for(String part : rule.toUpperCase().split("/")) {
+            if(part.isEmpty())
+                continue;
+            char type = part.charAt(0);
+            String value = part.substring(1);
+
+            switch(type) {
+                case 'B':
+                    parseCounts(value, birth, rule);
+                    break;
+                case 'S':
+                    parseCounts(value, survival, rule);
+                    break;
+                case 'C':
+                case 'G':
+                    try {
+                        states = Integer.parseInt(value);
+                    } catch(NumberFormatException exception) {
+                        throw new IllegalArgumentException("Invalid state count '" + value + "' in rule string: " + rule);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid rule string: " + rule);
+            }
+        }
+
+        int stateCount = states;
+        return new RuleDefinition(rule, stateCount, 1, neighborhood, (state, count) -> {
+            if(state == 0)
+                return birth[count] ? 1 : 0; // Birth
+            if(state == 1 && survival[count])
+                return 1; // Survival
+            return (state+1) % stateCount; // Start or continue dying
+        });
+    }
+
+    // Marks every neighbor count listed in value as one that applies
+    private static void parseCounts(String value, boolean[] counts, String rule) {
+        if(value.isEmpty())
+            return;
+
+        if(counts.length > 10 || value.contains(",") || value.contains("..")) {
+            // List form, comma separated counts and ranges such as 3,5..8
+            for(String item : value.split(",")) {
+                int range = item.indexOf("..");
+                int first = parseCount(range < 0 ? item : item.substring(0, range), counts, rule);
+                int last = range < 0 ? first : parseCount(item.substring(range+2), counts, rule);
+                for(int count = first; count <= last; count++)
+                    counts[count] = true;
+            }
+            return;
+        }
+
+        // Digit form, where each digit is its own count
+        for(char digit : value.toCharArray())
+            counts[parseCount(String.valueOf(digit), counts, rule)] = true;
+    }
+
+    // Reads a single neighbor count, which must fit the neighborhood
+    private static int parseCount(String value, boolean[] counts, String rule) {
+        int count;
+        try {
+            count = Integer.parseInt(value.trim());
+        } catch(NumberFormatException exception) {
+            throw new IllegalArgumentException("Invalid neighbor count '" + value + "' in rule string: " + rule);
+        }
+        if(count < 0 || count >= counts.length)
+            throw new IllegalArgumentException("Invalid neighbor count '" + value + "' in rule string: " + rule);
+        return count;
+    }
+
+    // Conway's Game of Life
+    public static RuleDefinition life() {
+        return generations("B3/S23", mooreNeighborhood(1));
+    }
+
+    // Off cells with exactly 2 firing neighbors fire, firing cells start dying, dying cells turn off
+    public static RuleDefinition briansBrain() {
+        return generations("B2/S/C3", mooreNeighborhood(1));
+    }
+
+    /**
+     * Wireworld, where 0 is empty, 1 is an electron head, 2 is an electron
+     * tail and 3 is a conductor. Conductors with 1 or 2 neighboring heads
+     * become heads.
+     */
+    public static RuleDefinition wireworld() {
+        return new RuleDefinition("Wireworld", 4, 1, mooreNeighborhood(1), (state, count) -> {
+            switch(state) {
+                case 1: return 2; // Head becomes tail
+                case 2: return 3; // Tail becomes conductor
+                case 3: return (count == 1 || count == 2) ? 1 : 3;
+                default: return 0; // Empty stays empty
+            }
+        });
+    }
+
+    public String getName() { return this.name; }
+
+    public int getStates() { return this.states; }
+
+    public int getCountedState() { return this.countedState; }
+
+    public int getNeighborhoodSize() { return this.neighborhood.length; }
+
+    // Returns a copy of the {dx, dy} offset of the given neighbor
+    public int[] getNeighbor(int i) { return this.neighborhood[i].clone(); }
+
+    public int getTransition(int state, int count) { return this.transitions[state][count]; }
+
+}
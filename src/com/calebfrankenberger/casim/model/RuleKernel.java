@@ -0,0 +1,439 @@
+/**
+ * A RuleDefinition compiled into a form that can step a grid quickly.
+ * Compiling flattens the transition table and neighborhood into plain
+ * arrays and picks a kernel specialized for the neighborhood's shape,
+ * so stepping a generic rule does the same work as a hand-written one.
+ * Square and diamond neighborhoods of any radius are counted from
+ * prefix sums, so their cost per cell does not grow with the radius.
+ *
+ * Kernels keep scratch tables between generations, so a kernel should
+ * only be stepped by one model at a time.
+ *
+ * @author Caleb Frankenberger
+ * @date 10/19/2026
+ */
+
+package com.calebfrankenberger.casim.model;
+
+import java.util.Arrays;
+
+public abstract class RuleKernel {
+
+    protected final int countedState; // Neighbors in this state are counted
+    protected final int stride; // Number of possible counts, the length of one row of the table
+    protected final int[] table; // table[state*stride + count] is the next state
+    protected final int reach; // Largest distance of any neighbor from the cell, in either direction
+    protected final boolean wrapEdges; // If true edges wrap to the opposite side, otherwise cells past the edge are never counted
+
+    protected RuleKernel(RuleDefinition rule, boolean wrapEdges) {
+        this.countedState = rule.getCountedState();
+        this.stride = rule.getNeighborhoodSize()+1;
+        this.table = new int[rule.getStates() * stride];
+        this.wrapEdges = wrapEdges;
+
+        for(int state = 0; state < rule.getStates(); state++) {
+            for(int count = 0; count < stride; count++)
+                table[state*stride + count] = rule.getTransition(state, count);
+        }
+
+        int maxReach = 0;
+        for(int i = 0; i < rule.getNeighborhoodSize(); i++) {
+            int[] offset = rule.getNeighbor(i);
+            maxReach = Math.max(maxReach, Math.max(Math.abs(offset[0]), Math.abs(offset[1])));
+        }
+        this.reach = maxReach;
+    }
+
+    // Turns a rule definition into the fastest kernel available for its neighborhood, with wrapping edges
+    public static RuleKernel compile(RuleDefinition rule) {
+        return compile(rule, true);
+    }
+
+    /**
+     * Turns a rule definition into the fastest kernel available for its neighborhood
+     *
+     * @param rule the rule to compile
+     * @param wrapEdges true to wrap edges, false to never count cells past the edge
+     */
+    public static RuleKernel compile(RuleDefinition rule, boolean wrapEdges) {
+        int radius = 0;
+        for(int i = 0; i < rule.getNeighborhoodSize(); i++) {
+            int[] offset = rule.getNeighbor(i);
+            radius = Math.max(radius, Math.max(Math.abs(offset[0]), Math.abs(offset[1])));
+        }
+
+        if(radius > 0 && matchesMoore(rule, radius)) {
+            if(radius == 1)
+                return new MooreKernel(rule, wrapEdges);
+            return new BoxKernel(rule, wrapEdges);
+        }
+        if(radius > 1 && matchesVonNeumann(rule, radius))
+            return new DiamondKernel(rule, wrapEdges);
+        return new GenericKernel(rule, wrapEdges);
+    }
+
+    /**
+     * Calculates the generation after source and writes it into target
+     *
+     * @param source current generation, indexed [x][y]
+     * @param target array to write the next generation into, indexed [x][y]
+     * @param width number of columns to step
+     * @param height number of rows to step
+     */
+    public abstract void step(int[][] source, int[][] target, int width, int height);
+
+    /**
+     * With wrapping edges, a neighborhood wider than the grid would reach the same
+     * cell, including the cell itself, more than once. That is rejected rather than
+     * counting cells twice. Models call this when they are created, so a bad size
+     * fails there instead of on the first step.
+     *
+     * @param width number of columns the kernel will step
+     * @param height number of rows the kernel will step
+     */
+    public void checkSize(int width, int height) {
+        if(wrapEdges && (2*reach+1 > width || 2*reach+1 > height))
+            throw new IllegalArgumentException("A neighborhood of radius " + reach + " does not fit a "
+                    + width + "x" + height + " grid with wrapping edges");
+    }
+
+    /**
+     * Writes a 1 for every counted cell and a 0 for every other cell into padded,
+     * a flat copy of the grid with reach extra cells on every side and a stride of
+     * (height + 2*reach). The border is filled from the opposite edge when wrapping,
+     * or left at 0 otherwise, so kernels can read any neighbor without edge checks.
+     */
+    protected void fillPadded(int[][] source, int width, int height, int[] padded) {
+        int paddedWidth = width + 2*reach;
+        int paddedHeight = height + 2*reach;
+
+        for(int i = 0; i < paddedWidth; i++) {
+            int x = i - reach;
+            int base = i * paddedHeight;
+
+            if(wrapEdges)
+                x = Math.floorMod(x, width);
+            else if(x < 0 || x >= width) {
+                for(int j = 0; j < paddedHeight; j++)
+                    padded[base + j] = 0;
+                continue;
+            }
+
+            int[] column = source[x];
+            for(int j = 0; j < paddedHeight; j++) {
+                int y = j - reach;
+                if(wrapEdges)
+                    y = Math.floorMod(y, height);
+                else if(y < 0 || y >= height) {
+                    padded[base + j] = 0;
+                    continue;
+                }
+                padded[base + j] = column[y] == countedState ? 1 : 0;
+            }
+        }
+    }
+
+    // True if the neighborhood is exactly every cell within radius in both directions
+    private static boolean matchesMoore(RuleDefinition rule, int radius) {
+        return matchesShape(rule, radius, false);
+    }
+
+    // True if the neighborhood is exactly every cell within radius steps horizontally plus vertically
+    private static boolean matchesVonNeumann(RuleDefinition rule, int radius) {
+        return matchesShape(rule, radius, true);
+    }
+
+    private static boolean matchesShape(RuleDefinition rule, int radius, boolean diamond) {
+        int side = 2*radius + 1;
+        boolean[] seen = new boolean[side*side];
+
+        for(int i = 0; i < rule.getNeighborhoodSize(); i++) {
+            int[] offset = rule.getNeighbor(i);
+            if(diamond && Math.abs(offset[0]) + Math.abs(offset[1]) > radius)
+                return false;
+
+            int index = (offset[0]+radius)*side + (offset[1]+radius);
+            if(seen[index]) // A repeated offset is counted twice, which no shaped kernel does
+                return false;
+            seen[index] = true;
+        }
+
+        for(int dx = -radius; dx <= radius; dx++) {
+            for(int dy = -radius; dy <= radius; dy++) {
+                boolean inShape = (dx != 0 || dy != 0) && (!diamond || Math.abs(dx) + Math.abs(dy) <= radius);
+                if(inShape && !seen[(dx+radius)*side + (dy+radius)])
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    // Kernel for the standard 3x3 neighborhood, with the neighbor reads written out by hand
+    private static final class MooreKernel extends RuleKernel {
+
+        private int[] deadColumn = new int[0]; // Stands in for the columns past the left and right edges
+
+        private MooreKernel(RuleDefinition rule, boolean wrapEdges) {
+            super(rule, wrapEdges);
+        }
+
+        @Override
+        public void step(int[][] source, int[][] target, int width, int height) {
+            checkSize(width, height);
+
+            int counted = countedState;
+            if(!wrapEdges && deadColumn.length < height) {
+                deadColumn = new int[height];
+                Arrays.fill(deadColumn, -1); // -1 is never a state, so it is never counted
+            }
+
+            for(int x = 0; x < width; x++) {
+                int[] left = x > 0 ? source[x-1] : (wrapEdges ? source[width-1] : deadColumn);
+                int[] middle = source[x];
+                int[] right = x < width-1 ? source[x+1] : (wrapEdges ? source[0] : deadColumn);
+                int[] next = target[x];
+
+                for(int y = 0; y < height; y++) {
+                    int count;
+
+                    if(y > 0 && y < height-1) {
+                        int up = y-1;
+                        int down = y+1;
+                        count = (left[up] == counted ? 1 : 0) + (left[y] == counted ? 1 : 0) + (left[down] == counted ? 1 : 0)
+                                + (middle[up] == counted ? 1 : 0) + (middle[down] == counted ? 1 : 0)
+                                + (right[up] == counted ? 1 : 0) + (right[y] == counted ? 1 : 0) + (right[down] == counted ? 1 : 0);
+                    } else {
+                        // The top and bottom rows wrap or stop at the edge
+                        int up = y > 0 ? y-1 : (wrapEdges ? height-1 : -1);
+                        int down = y < height-1 ? y+1 : (wrapEdges ? 0 : -1);
+                        count = isCounted(left, up) + isCounted(left, y) + isCounted(left, down)
+                                + isCounted(middle, up) + isCounted(middle, down)
+                                + isCounted(right, up) + isCounted(right, y) + isCounted(right, down);
+                    }
+
+                    next[y] = table[middle[y]*stride + count];
+                }
+            }
+        }
+
+        private int isCounted(int[] column, int y) {
+            return y >= 0 && column[y] == countedState ? 1 : 0;
+        }
+    }
+
+    /**
+     * Kernel for square neighborhoods larger than 3x3. Builds a summed-area table of
+     * counted cells once per generation, then reads each neighborhood in four lookups.
+     */
+    private static final class BoxKernel extends RuleKernel {
+
+        private int[] padded = new int[0]; // Counted cells on the padded grid
+        private int[] areaTable = new int[0]; // areaTable[i*(paddedHeight+1) + j] sums padded columns below i and rows below j
+
+        private BoxKernel(RuleDefinition rule, boolean wrapEdges) {
+            super(rule, wrapEdges);
+        }
+
+        @Override
+        public void step(int[][] source, int[][] target, int width, int height) {
+            checkSize(width, height);
+
+            int paddedWidth = width + 2*reach;
+            int paddedHeight = height + 2*reach;
+            int tableStride = paddedHeight + 1;
+
+            if(padded.length < paddedWidth*paddedHeight) {
+                padded = new int[paddedWidth*paddedHeight];
+                areaTable = new int[(paddedWidth+1)*tableStride];
+            }
+
+            fillPadded(source, width, height, padded);
+
+            for(int i = 0; i < paddedWidth; i++) {
+                int previous = i * tableStride;
+                int current = previous + tableStride;
+                int base = i * paddedHeight;
+                int columnSum = 0;
+
+                for(int j = 0; j < paddedHeight; j++) {
+                    columnSum += padded[base + j];
+                    areaTable[current + j + 1] = areaTable[previous + j + 1] + columnSum;
+                }
+            }
+
+            int side = 2*reach + 1;
+            int counted = countedState;
+
+            for(int x = 0; x < width; x++) {
+                int left = x * tableStride;
+                int right = (x + side) * tableStride;
+                int[] middle = source[x];
+                int[] next = target[x];
+
+                for(int y = 0; y < height; y++) {
+                    int count = areaTable[right + y + side] - areaTable[left + y + side] - areaTable[right + y] + areaTable[left + y];
+                    if(middle[y] == counted)
+                        count--; // Don't count the current cell as a neighbor
+
+                    next[y] = table[middle[y]*stride + count];
+                }
+            }
+        }
+    }
+
+    /**
+     * Kernel for von Neumann (diamond) neighborhoods larger than radius 1. The four
+     * edges of a diamond are diagonal lines, so with prefix sums along both diagonals
+     * the diamond can slide down a column by dropping its top edges and adding new
+     * bottom edges, four lookups per cell.
+     */
+    private static final class DiamondKernel extends RuleKernel {
+
+        private int[] padded = new int[0]; // Counted cells on the padded grid
+
+        /**
+         *  Prefix sums along the diagonals of the padded grid, both with a stride of
+         *  (paddedHeight + 1) and shifted by one so index -1 is never needed.
+         *  mainSums[(i+1)][(j+1)] sums cells (i, j), (i-1, j-1), (i-2, j-2)...
+         *  antiSums[(i+1)][(j+1)] sums cells (i, j), (i+1, j-1), (i+2, j-2)...
+         */
+        private int[] mainSums = new int[0];
+        private int[] antiSums = new int[0];
+
+        private DiamondKernel(RuleDefinition rule, boolean wrapEdges) {
+            super(rule, wrapEdges);
+        }
+
+        @Override
+        public void step(int[][] source, int[][] target, int width, int height) {
+            checkSize(width, height);
+
+            int r = reach;
+            int paddedWidth = width + 2*r;
+            int paddedHeight = height + 2*r;
+            int s = paddedHeight + 1;
+
+            if(padded.length < paddedWidth*paddedHeight) {
+                padded = new int[paddedWidth*paddedHeight];
+                mainSums = new int[(paddedWidth+1)*s];
+                antiSums = new int[(paddedWidth+2)*s];
+            }
+
+            fillPadded(source, width, height, padded);
+
+            for(int i = 0; i < paddedWidth; i++) {
+                for(int j = 0; j < paddedHeight; j++)
+                    mainSums[(i+1)*s + j+1] = padded[i*paddedHeight + j] + mainSums[i*s + j];
+            }
+            for(int i = paddedWidth-1; i >= 0; i--) {
+                for(int j = 0; j < paddedHeight; j++)
+                    antiSums[(i+1)*s + j+1] = padded[i*paddedHeight + j] + antiSums[(i+2)*s + j];
+            }
+
+            int counted = countedState;
+
+            for(int x = 0; x < width; x++) {
+                int cx = x + r; // Center column on the padded grid
+                int[] middle = source[x];
+                int[] next = target[x];
+
+                // Count the first diamond in the column directly
+                int diamond = 0;
+                for(int a = -r; a <= r; a++) {
+                    int base = (cx + a) * paddedHeight + r;
+                    int span = r - Math.abs(a);
+                    for(int b = -span; b <= span; b++)
+                        diamond += padded[base + b];
+                }
+
+                for(int y = 0; y < height; y++) {
+                    int count = diamond;
+                    if(middle[y] == counted)
+                        count--; // Don't count the current cell as a neighbor
+
+                    next[y] = table[middle[y]*stride + count];
+
+                    if(y == height-1)
+                        break;
+
+                    // Slide the diamond down one row
+                    int cy = y + r; // Center row on the padded grid
+                    int ny = cy + 1;
+                    diamond -= antiSums[(cx-r+1)*s + cy+1] - antiSums[(cx+2)*s + cy-r]; // Top left edge
+                    diamond -= mainSums[(cx+r+1)*s + cy+1] - mainSums[(cx+1)*s + cy-r+1]; // Top right edge
+                    diamond += mainSums[(cx+1)*s + ny+r+1] - mainSums[(cx-r)*s + ny]; // Bottom left edge
+                    diamond += antiSums[(cx+2)*s + ny+r] - antiSums[(cx+r+2)*s + ny]; // Bottom right edge
+                }
+            }
+        }
+    }
+
+    // Kernel for any other neighborhood, using flattened offset arrays
+    private static final class GenericKernel extends RuleKernel {
+
+        private final int[] dx, dy; // Offset of every neighbor
+
+        private GenericKernel(RuleDefinition rule, boolean wrapEdges) {
+            super(rule, wrapEdges);
+
+            int size = rule.getNeighborhoodSize();
+            this.dx = new int[size];
+            this.dy = new int[size];
+
+            for(int i = 0; i < size; i++) {
+                int[] offset = rule.getNeighbor(i);
+                dx[i] = offset[0];
+                dy[i] = offset[1];
+            }
+        }
+
+        @Override
+        public void step(int[][] source, int[][] target, int width, int height) {
+            checkSize(width, height);
+
+            int counted = countedState;
+            int size = dx.length;
+            int[][] columns = new int[size][]; // The column each neighbor is in for the current x, null if past the edge
+
+            for(int x = 0; x < width; x++) {
+                for(int i = 0; i < size; i++) {
+                    int neighborX = x + dx[i];
+                    if(wrapEdges)
+                        columns[i] = source[Math.floorMod(neighborX, width)];
+                    else
+                        columns[i] = neighborX >= 0 && neighborX < width ? source[neighborX] : null;
+                }
+
+                int[] middle = source[x];
+                int[] next = target[x];
+
+                for(int y = 0; y < height; y++) {
+                    int count = 0;
+
+                    // Away from the top and bottom edges no wrapping is needed
+                    if(y >= reach && y < height-reach) {
+                        for(int i = 0; i < size; i++) {
+                            if(columns[i] != null && columns[i][y + dy[i]] == counted)
+                                count++;
+                        }
+                    } else {
+                        for(int i = 0; i < size; i++) {
+                            if(columns[i] == null)
+                                continue;
+                            int neighborY = y + dy[i];
+                            if(wrapEdges)
+                                neighborY = Math.floorMod(neighborY, height);
+                            else if(neighborY < 0 || neighborY >= height)
+                                continue;
+                            if(columns[i][neighborY] == counted)
+                                count++;
+                        }
+                    }
+
+                    next[y] = table[middle[y]*stride + count];
+                }
+            }
+        }
+    }
+
+}